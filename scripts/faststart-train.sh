@@ -0,0 +1,55 @@
+#!/usr/bin/env bash
+# Extracts the packaged jar and records an AppCDS archive from a training run
+# that exercises the user and item endpoints.
+# Usage: scripts/faststart-train.sh target/shareit-0.0.1-SNAPSHOT.jar [target/faststart]
+set -euo pipefail
+
+JAR=${1:?path to the packaged jar}
+APP_DIR=${2:-target/faststart}
+PORT=${PORT:-18080}
+ROUNDS=${ROUNDS:-200}
+BASE="http://localhost:$PORT"
+
+rm -rf "$APP_DIR"
+java -Djarmode=tools -jar "$JAR" extract --destination "$APP_DIR"
+APP_JAR="$APP_DIR/$(basename "$JAR")"
+
+java -XX:ArchiveClassesAtExit="$APP_DIR/application.jsa" \
+     -Dspring.aot.enabled=true \
+     -Dspring.profiles.active=faststart \
+     -Dserver.port="$PORT" \
+     -jar "$APP_JAR" > "$APP_DIR/training.log" 2>&1 &
+PID=$!
+trap 'kill "$PID" 2>/dev/null || true' EXIT
+
+until curl -sf -o /dev/null "$BASE/users"; do
+    kill -0 "$PID" 2>/dev/null || { cat "$APP_DIR/training.log"; exit 1; }
+    sleep 0.2
+done
+
+json='Content-Type: application/json'
+for i in $(seq 1 "$ROUNDS"); do
+    user=$(curl -sf -H "$json" -d "{\"name\":\"user$i\",\"email\":\"user$i@train.local\"}" "$BASE/users")
+    userId=$(echo "$user" | sed -E 's/.*"id":([0-9]+).*/\1/')
+    curl -sf -o /dev/null "$BASE/users/$userId"
+    curl -sf -o /dev/null -X PATCH -H "$json" -d "{\"name\":\"user$i-upd\"}" "$BASE/users/$userId"
+    curl -sf -o /dev/null "$BASE/users"
+
+    item=$(curl -sf -H "$json" -H "X-Sharer-User-Id: $userId" \
+        -d "{\"name\":\"drill$i\",\"description\":\"cordless drill\",\"available\":true}" "$BASE/items")
+    itemId=$(echo "$item" | sed -E 's/.*"id":([0-9]+).*/\1/')
+    curl -sf -o /dev/null -X PATCH -H "$json" -H "X-Sharer-User-Id: $userId" \
+        -d '{"available":false}' "$BASE/items/$itemId"
+    curl -sf -o /dev/null -H "X-Sharer-User-Id: $userId" "$BASE/items/$itemId"
+    curl -sf -o /dev/null -H "X-Sharer-User-Id: $userId" "$BASE/items"
+    curl -sf -o /dev/null -H "X-Sharer-User-Id: $userId" "$BASE/items/search?text=drill"
+    curl -sf -o /dev/null -X DELETE -H "X-Sharer-User-Id: $userId" "$BASE/items/$itemId"
+    curl -sf -o /dev/null -X DELETE "$BASE/users/$userId"
+done
+
+# the dynamic archive is written when the JVM exits
+kill -TERM "$PID"
+wait "$PID" || true
+trap - EXIT
+test -f "$APP_DIR/application.jsa"
+echo "AppCDS archive: $APP_DIR/application.jsa"
@@ -0,0 +1,39 @@
+#!/usr/bin/env bash
+# Reports time from JVM launch to the first successful request,
+# for the plain jar and for the fast-start build (AOT + AppCDS + lazy init).
+# Usage: scripts/startup-benchmark.sh target/shareit-0.0.1-SNAPSHOT.jar [target/faststart]
+set -euo pipefail
+
+JAR=${1:?path to the packaged jar}
+APP_DIR=${2:-target/faststart}
+PORT=${PORT:-18081}
+RUNS=${RUNS:-5}
+TIMEOUT=${TIMEOUT:-120}
+
+measure() {
+    local total=0
+    for _ in $(seq 1 "$RUNS"); do
+        local start pid elapsed
+        start=$(date +%s%N)
+        # JVM options have to precede -jar, which is the last one in "$@"
+        java -Dserver.port="$PORT" "$@" > /dev/null 2>&1 &
+        pid=$!
+        until curl -sf -o /dev/null "http://localhost:$PORT/users"; do
+            kill -0 "$pid" 2>/dev/null || { echo "application exited" >&2; return 1; }
+            if (( ($(date +%s%N) - start) / 1000000000 > TIMEOUT )); then
+                kill "$pid"; echo "no successful request within ${TIMEOUT}s" >&2; return 1
+            fi
+            sleep 0.01
+        done
+        elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+        total=$(( total + elapsed ))
+        kill -TERM "$pid"
+        wait "$pid" || true
+    done
+    echo $(( total / RUNS ))
+}
+
+echo "default:    $(measure -jar "$JAR") ms to first successful request (avg of $RUNS)"
+echo "fast-start: $(measure -XX:SharedArchiveFile="$APP_DIR/application.jsa" \
+    -Dspring.aot.enabled=true -Dspring.profiles.active=faststart \
+    -jar "$APP_DIR/$(basename "$JAR")") ms to first successful request (avg of $RUNS)"
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.HandlerAdapter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.user.service.UserCompactor;
+
+/**
+ * Beans kept eager when the faststart profile turns on spring.main.lazy-initialization:
+ * everything the first request goes through (controllers with their services, MVC
+ * infrastructure, JSON converters, bean validation) and UserCompactor, which has to
+ * register its scheduled task. Actuator and other off-path beans are created on first use.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("faststart")
+public class FastStartConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter requestPathBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                DispatcherServlet.class,
+                HandlerMapping.class,
+                HandlerAdapter.class,
+                HandlerExceptionResolver.class,
+                HttpMessageConverters.class,
+                HttpMessageConverter.class,
+                ObjectMapper.class,
+                Validator.class);
+    }
+
+    @Bean
+    static LazyInitializationExcludeFilter controllers() {
+        return (beanName, beanDefinition, beanType) ->
+                beanType != null && AnnotatedElementUtils.hasAnnotation(beanType, Controller.class);
+    }
+
+    @Bean
+    static LazyInitializationExcludeFilter scheduledTasks() {
+        return LazyInitializationExcludeFilter.forBeanTypes(UserCompactor.class);
+    }
+}
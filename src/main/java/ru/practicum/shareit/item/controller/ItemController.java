@@ -3,12 +3,16 @@ package ru.practicum.shareit.item.controller;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemChangeFeed;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping(path = "/items")
@@ -18,9 +22,11 @@ public class ItemController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     private final ItemService service;
+    private final ItemChangeFeed changeFeed;
 
-    public ItemController(ItemService service) {
+    public ItemController(ItemService service, ItemChangeFeed changeFeed) {
         this.service = service;
+        this.changeFeed = changeFeed;
     }
 
     @PostMapping
@@ -39,6 +45,19 @@ public class ItemController {
         return service.update(itemId, dto, userId);
     }
 
+    @DeleteMapping("/{itemId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable Long itemId, @RequestHeader(USER_ID_HEADER) Long userId) {
+        service.delete(itemId, userId);
+    }
+
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@RequestParam(required = false) Long ownerId,
+                              @RequestParam(required = false) Set<Long> itemIds,
+                              @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return changeFeed.subscribe(ownerId, itemIds, lastEventId);
+    }
+
     @GetMapping("/{itemId}")
     public ItemDto getById(@PathVariable Long itemId, @RequestHeader(USER_ID_HEADER) Long userId) {
         return service.getById(itemId, userId)
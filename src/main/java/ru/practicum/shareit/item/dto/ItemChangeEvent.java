@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemChangeEvent {
+    private Type type;
+    private Long itemId;
+    private Long ownerId;
+    // null for DELETED events
+    private ItemDto item;
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
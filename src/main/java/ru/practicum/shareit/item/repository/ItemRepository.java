@@ -12,7 +12,9 @@ public interface ItemRepository {
 
     List<Item> findAll();
 
-    Item update(Item item);
+    List<Item> findByOwnerId(Long ownerId, int limit);
+
+    Optional<Item> update(Item item);
 
     void delete(Long id);
 }
\ No newline at end of file
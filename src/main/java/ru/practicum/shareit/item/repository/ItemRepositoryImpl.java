@@ -4,18 +4,22 @@ import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Repository
 public class ItemRepositoryImpl implements ItemRepository {
     private final AtomicLong idGen = new AtomicLong(0);
-    private final Map<Long, Item> storage = new HashMap<>();
+    private final Map<Long, Item> storage = new ConcurrentHashMap<>();
+    // ownerId → ids of owned items
+    private final Map<Long, Set<Long>> ownerIndex = new ConcurrentHashMap<>();
 
     @Override
     public Item save(Item item) {
         long id = idGen.incrementAndGet();
         item.setId(id);
         storage.put(id, item);
+        index(item);
         return item;
     }
 
@@ -30,13 +34,58 @@ public class ItemRepositoryImpl implements ItemRepository {
     }
 
     @Override
-    public Item update(Item item) {
-        storage.put(item.getId(), item);
-        return item;
+    public List<Item> findByOwnerId(Long ownerId, int limit) {
+        return ownerIndex.getOrDefault(ownerId, Set.of()).stream()
+                .limit(limit)
+                .map(storage::get)
+                .filter(item -> item != null && ownerId.equals(ownerId(item)))
+                .toList();
+    }
+
+    @Override
+    public Optional<Item> update(Item item) {
+        Item previous = storage.get(item.getId());
+        // never re-insert an item that was deleted concurrently
+        if (storage.computeIfPresent(item.getId(), (id, current) -> item) == null) {
+            return Optional.empty();
+        }
+        if (previous != null && !Objects.equals(ownerId(previous), ownerId(item))) {
+            unindex(previous);
+        }
+        index(item);
+        return Optional.of(item);
     }
 
     @Override
     public void delete(Long id) {
-        storage.remove(id);
+        Item removed = storage.remove(id);
+        if (removed != null) {
+            unindex(removed);
+        }
+    }
+
+    private void index(Item item) {
+        Long ownerId = ownerId(item);
+        if (ownerId != null) {
+            ownerIndex.compute(ownerId, (k, ids) -> {
+                Set<Long> result = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                result.add(item.getId());
+                return result;
+            });
+        }
+    }
+
+    private void unindex(Item item) {
+        Long ownerId = ownerId(item);
+        if (ownerId != null) {
+            ownerIndex.computeIfPresent(ownerId, (k, ids) -> {
+                ids.remove(item.getId());
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static Long ownerId(Item item) {
+        return item.getOwner() != null ? item.getOwner().getId() : null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,228 @@
+package ru.practicum.shareit.item.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.item.dto.ItemChangeEvent;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes item changes to SSE subscribers.
+ * Every event carries a global sequence number as its SSE id. Every subscriber has its own
+ * buffer of at most {@code bufferSize} pending items: while a subscriber is busy, repeated
+ * changes of the same item are coalesced into the latest one. When events may have been
+ * lost (buffer overflow, timeout, reconnect with any {@code Last-Event-ID} but the current one) the
+ * subscriber gets a {@value #RESYNC} event and should reload the items it tracks.
+ */
+@Component
+public class ItemChangeFeed {
+    static final String RESYNC = "RESYNC";
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong(0);
+    private final ExecutorService dispatcher;
+    private final int bufferSize;
+    private final long timeoutMillis;
+
+    @Autowired
+    public ItemChangeFeed(@Value("${shareit.items.changes.buffer-size:256}") int bufferSize,
+                          @Value("${shareit.items.changes.timeout-ms:1800000}") long timeoutMillis) {
+        this(bufferSize, timeoutMillis, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    ItemChangeFeed(int bufferSize, long timeoutMillis, ExecutorService dispatcher) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.dispatcher = dispatcher;
+    }
+
+    public SseEmitter subscribe(Long ownerId, Set<Long> itemIds, Long lastEventId) {
+        SseEmitter emitter = createEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, ownerId, itemIds == null ? Set.of() : Set.copyOf(itemIds));
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> resync(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        // any other id than the current one means missed events, or an id from before a restart
+        if (lastEventId != null && lastEventId != sequence.get()) {
+            sendResync(subscriber);
+        }
+        return emitter;
+    }
+
+    public void publish(ItemChangeEvent event) {
+        long id = sequence.incrementAndGet();
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.accepts(event)) {
+                continue;
+            }
+            Offer offer = subscriber.offer(id, event, bufferSize);
+            if (offer == Offer.SCHEDULED) {
+                dispatch(subscriber, () -> drain(subscriber));
+            } else if (offer == Offer.OVERFLOW && subscriber.close()) {
+                subscribers.remove(subscriber);
+                dispatch(subscriber, () -> resyncAndComplete(subscriber));
+            }
+        }
+    }
+
+    SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    // Sending may block on a slow client, so it never happens on the publishing thread.
+    private void dispatch(Subscriber subscriber, Runnable task) {
+        try {
+            dispatcher.execute(task);
+        } catch (RejectedExecutionException e) {
+            // the feed is shutting down
+            subscribers.remove(subscriber);
+            subscriber.close();
+            complete(subscriber);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        List<Pending> batch;
+        while (!(batch = subscriber.takePending()).isEmpty()) {
+            for (Pending pending : batch) {
+                if (subscriber.isClosed()) {
+                    return;
+                }
+                try {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(String.valueOf(pending.id()))
+                            .name(pending.event().getType().name())
+                            .data(pending.event()));
+                } catch (IOException | IllegalStateException e) {
+                    close(subscriber);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void resync(Subscriber subscriber) {
+        if (subscriber.close()) {
+            subscribers.remove(subscriber);
+            resyncAndComplete(subscriber);
+        }
+    }
+
+    // Tells the client to reload the items it tracks, since pending events were dropped.
+    private void resyncAndComplete(Subscriber subscriber) {
+        sendResync(subscriber);
+        complete(subscriber);
+    }
+
+    private void sendResync(Subscriber subscriber) {
+        long id = sequence.get();
+        try {
+            subscriber.emitter.send(SseEmitter.event()
+                    .id(String.valueOf(id))
+                    .name(RESYNC)
+                    .data(id));
+        } catch (IOException | IllegalStateException e) {
+            close(subscriber);
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        if (subscriber.close()) {
+            complete(subscriber);
+        }
+    }
+
+    private static void complete(Subscriber subscriber) {
+        try {
+            subscriber.emitter.complete();
+        } catch (IllegalStateException ignored) {
+            // emitter is already completed
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(this::close);
+        subscribers.clear();
+    }
+
+    enum Offer {
+        SCHEDULED, QUEUED, OVERFLOW
+    }
+
+    record Pending(long id, ItemChangeEvent event) {
+    }
+
+    static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Long ownerId;
+        private final Set<Long> itemIds;
+        // latest pending event per item, in order of the most recent change
+        private final Map<Long, Pending> pending = new LinkedHashMap<>();
+        private boolean draining;
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter, Long ownerId, Set<Long> itemIds) {
+            this.emitter = emitter;
+            this.ownerId = ownerId;
+            this.itemIds = itemIds;
+        }
+
+        boolean accepts(ItemChangeEvent event) {
+            return (ownerId == null || ownerId.equals(event.getOwnerId()))
+                    && (itemIds.isEmpty() || itemIds.contains(event.getItemId()));
+        }
+
+        synchronized Offer offer(long id, ItemChangeEvent event, int capacity) {
+            if (closed) {
+                return Offer.QUEUED;
+            }
+            if (!pending.containsKey(event.getItemId()) && pending.size() >= capacity) {
+                return Offer.OVERFLOW;
+            }
+            pending.remove(event.getItemId());
+            pending.put(event.getItemId(), new Pending(id, event));
+            if (draining) {
+                return Offer.QUEUED;
+            }
+            draining = true;
+            return Offer.SCHEDULED;
+        }
+
+        synchronized List<Pending> takePending() {
+            if (closed || pending.isEmpty()) {
+                draining = false;
+                return List.of();
+            }
+            List<Pending> batch = new ArrayList<>(pending.values());
+            pending.clear();
+            return batch;
+        }
+
+        synchronized boolean isClosed() {
+            return closed;
+        }
+
+        // Returns false if the subscriber was already closed.
+        synchronized boolean close() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            pending.clear();
+            return true;
+        }
+    }
+}
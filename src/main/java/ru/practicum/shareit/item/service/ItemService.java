@@ -10,6 +10,8 @@ public interface ItemService {
 
     ItemDto update(Long itemId, ItemDto dto, Long userId);
 
+    void delete(Long itemId, Long userId);
+
     Optional<ItemDto> getById(Long itemId, Long userId);
 
     List<ItemDto> getAllByUser(Long userId);
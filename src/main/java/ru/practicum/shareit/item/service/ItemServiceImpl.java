@@ -1,7 +1,11 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.exceptions.ItemNotFoundException;
+import ru.practicum.shareit.item.dto.ItemChangeEvent;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
@@ -20,13 +24,24 @@ public class ItemServiceImpl implements ItemService {
     private final ItemRepository repository;
     private final UserValidator userValidator;
     private final ItemValidator itemValidator;
+    private final ItemChangeFeed changeFeed;
 
     @Override
     public ItemDto create(ItemDto dto, Long userId) {
         User owner = userValidator.validateUserExists(userId);
         Item item = ItemMapper.toModel(dto);
         item.setOwner(owner);
-        return ItemMapper.toDto(repository.save(item));
+        synchronized (item) {
+            Item saved = repository.save(item);
+            if (!itemValidator.isVisible(saved)) {
+                // the owner was deleted after validateUserExists
+                repository.delete(saved.getId());
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Пользователь не найден: " + userId);
+            }
+            ItemDto created = ItemMapper.toDto(saved);
+            changeFeed.publish(new ItemChangeEvent(ItemChangeEvent.Type.CREATED, created.getId(), owner.getId(), created));
+            return created;
+        }
     }
 
     @Override
@@ -34,30 +49,51 @@ public class ItemServiceImpl implements ItemService {
         Item existing = itemValidator.validateItemExists(itemId);
         itemValidator.validateOwnership(existing, userId);
 
-        if (dto.getName() != null && !dto.getName().isBlank()) {
-            existing.setName(dto.getName());
-        }
-        if (dto.getDescription() != null && !dto.getDescription().isBlank()) {
-            existing.setDescription(dto.getDescription());
-        }
-        if (dto.getAvailable() != null) {
-            existing.setAvailable(dto.getAvailable());
+        // Writes of an item and their events are serialized on the stored instance,
+        // so subscribers get events in the order the writes happened.
+        synchronized (existing) {
+            if (dto.getName() != null && !dto.getName().isBlank()) {
+                existing.setName(dto.getName());
+            }
+            if (dto.getDescription() != null && !dto.getDescription().isBlank()) {
+                existing.setDescription(dto.getDescription());
+            }
+            if (dto.getAvailable() != null) {
+                existing.setAvailable(dto.getAvailable());
+            }
+
+            Item stored = repository.update(existing)
+                    .orElseThrow(() -> new ItemNotFoundException("Item not found: " + itemId));
+            ItemDto updated = ItemMapper.toDto(stored);
+            changeFeed.publish(new ItemChangeEvent(ItemChangeEvent.Type.UPDATED, itemId, userId, updated));
+            return updated;
         }
+    }
 
-        Item updated = repository.update(existing);
-        return ItemMapper.toDto(updated);
+    @Override
+    public void delete(Long itemId, Long userId) {
+        Item existing = itemValidator.validateItemExists(itemId);
+        itemValidator.validateOwnership(existing, userId);
+        synchronized (existing) {
+            if (repository.findById(itemId).isEmpty()) {
+                throw new ItemNotFoundException("Item not found: " + itemId);
+            }
+            repository.delete(itemId);
+            changeFeed.publish(new ItemChangeEvent(ItemChangeEvent.Type.DELETED, itemId, userId, null));
+        }
     }
 
     @Override
     public Optional<ItemDto> getById(Long itemId, Long userId) {
         return repository.findById(itemId)
+                .filter(itemValidator::isVisible)
                 .map(ItemMapper::toDto);
     }
 
     @Override
     public List<ItemDto> getAllByUser(Long userId) {
-        return repository.findAll().stream()
-                .filter(item -> item.getOwner() != null && item.getOwner().getId().equals(userId))
+        return repository.findByOwnerId(userId, Integer.MAX_VALUE).stream()
+                .filter(itemValidator::isVisible)
                 .map(ItemMapper::toDto)
                 .collect(Collectors.toList());
     }
@@ -70,6 +106,7 @@ public class ItemServiceImpl implements ItemService {
         String s = text.toLowerCase();
         return repository.findAll().stream()
                 .filter(Item::getAvailable)
+                .filter(itemValidator::isVisible)
                 .filter(item ->
                         item.getName().toLowerCase().contains(s) ||
                                 item.getDescription().toLowerCase().contains(s)
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.repository.UserTombstones;
 import ru.practicum.shareit.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.exceptions.NotItemOwnerException;
 import ru.practicum.shareit.exceptions.ItemHasNoOwnerException;
@@ -12,12 +13,18 @@ import ru.practicum.shareit.exceptions.ItemHasNoOwnerException;
 @RequiredArgsConstructor
 public class ItemValidator {
     private final ItemRepository itemRepository;
+    private final UserTombstones userTombstones;
 
     public Item validateItemExists(Long itemId) {
         return itemRepository.findById(itemId)
+                .filter(this::isVisible)
                 .orElseThrow(() -> new ItemNotFoundException("Item not found: " + itemId));
     }
 
+    public boolean isVisible(Item item) {
+        return item.getOwner() == null || !userTombstones.contains(item.getOwner().getId());
+    }
+
     public void validateOwnership(Item item, Long userId) {
         if (item.getOwner() == null || item.getOwner().getId() == null) {
             throw new ItemHasNoOwnerException("Item has no owner");
@@ -4,12 +4,13 @@ import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Repository
 public class UserRepositoryImpl implements UserRepository {
     private final AtomicLong idGen = new AtomicLong(0);
-    private final Map<Long, User> storage = new HashMap<>();
+    private final Map<Long, User> storage = new ConcurrentHashMap<>();
 
     @Override
     public User save(User user) {
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.user.repository;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ids of deleted users. Reads check it to hide the data of deleted users.
+ * Tombstones are kept for good, so data written concurrently with the deletion stays hidden;
+ * ids of users whose data has not been removed yet are also tracked for the compactor.
+ */
+@Component
+public class UserTombstones {
+    private final Set<Long> deleted = ConcurrentHashMap.newKeySet();
+    private final Set<Long> uncompacted = ConcurrentHashMap.newKeySet();
+
+    public void add(Long userId) {
+        deleted.add(userId);
+        uncompacted.add(userId);
+    }
+
+    public boolean contains(Long userId) {
+        return userId != null && deleted.contains(userId);
+    }
+
+    public List<Long> findUncompacted() {
+        return List.copyOf(uncompacted);
+    }
+
+    public void markCompacted(Long userId) {
+        uncompacted.remove(userId);
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.user.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemChangeEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemChangeFeed;
+import ru.practicum.shareit.user.repository.UserTombstones;
+
+import java.util.List;
+
+/**
+ * Removes the data of deleted users in the background.
+ * Each tick deletes at most {@code batchSize} items; a user is marked as compacted
+ * once it owns no items anymore.
+ */
+@Component
+public class UserCompactor {
+    private final UserTombstones tombstones;
+    private final ItemRepository itemRepository;
+    private final ItemChangeFeed changeFeed;
+    private final int batchSize;
+
+    public UserCompactor(UserTombstones tombstones,
+                         ItemRepository itemRepository,
+                         ItemChangeFeed changeFeed,
+                         @Value("${shareit.users.compaction.batch-size:100}") int batchSize) {
+        this.tombstones = tombstones;
+        this.itemRepository = itemRepository;
+        this.changeFeed = changeFeed;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.users.compaction.interval-ms:1000}")
+    public void compact() {
+        int budget = batchSize;
+        for (Long userId : tombstones.findUncompacted()) {
+            if (budget == 0) {
+                return;
+            }
+            List<Item> items = itemRepository.findByOwnerId(userId, budget);
+            for (Item item : items) {
+                // same monitor as ItemServiceImpl writes, so DELETED is the last event of the item
+                synchronized (item) {
+                    if (itemRepository.findById(item.getId()).isPresent()) {
+                        itemRepository.delete(item.getId());
+                        changeFeed.publish(new ItemChangeEvent(ItemChangeEvent.Type.DELETED, item.getId(), userId, null));
+                    }
+                }
+            }
+            budget -= items.size();
+            if (itemRepository.findByOwnerId(userId, 1).isEmpty()) {
+                tombstones.markCompacted(userId);
+            }
+        }
+    }
+}
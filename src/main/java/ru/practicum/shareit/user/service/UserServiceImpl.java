@@ -3,6 +3,7 @@ package ru.practicum.shareit.user.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.repository.UserTombstones;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -17,6 +18,7 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
     private final UserRepository repository;
     private final UserValidator userValidator;
+    private final UserTombstones tombstones;
 
     @Override
     public UserDto create(UserDto dto) {
@@ -54,6 +56,8 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public void delete(Long id) {
+        // owned items are hidden by the tombstone and removed later by UserCompactor
+        tombstones.add(id);
         repository.delete(id);
     }
 }
\ No newline at end of file
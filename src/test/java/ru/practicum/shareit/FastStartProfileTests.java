@@ -0,0 +1,49 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.user.controller.UserController;
+import ru.practicum.shareit.user.service.UserCompactor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("faststart")
+class FastStartProfileTests {
+
+	@Autowired
+	private ConfigurableListableBeanFactory beanFactory;
+
+	@Test
+	void requestPathBeansStayEager() {
+		assertThat(isLazy(ItemController.class)).isFalse();
+		assertThat(isLazy(UserController.class)).isFalse();
+		assertThat(isLazy(UserCompactor.class)).isFalse();
+		assertThat(isLazy(DispatcherServlet.class)).isFalse();
+		assertThat(isLazy(RequestMappingHandlerAdapter.class)).isFalse();
+		assertThat(isLazy(ObjectMapper.class)).isFalse();
+		assertThat(isLazy(jakarta.validation.Validator.class)).isFalse();
+	}
+
+	@Test
+	void offPathBeansAreLazy() {
+		assertThat(isLazy(HealthEndpoint.class)).isTrue();
+	}
+
+	private boolean isLazy(Class<?> type) {
+		String[] names = beanFactory.getBeanNamesForType(type, true, false);
+		assertThat(names).isNotEmpty();
+		return beanFactory.getBeanDefinition(names[0]).isLazyInit();
+	}
+
+}
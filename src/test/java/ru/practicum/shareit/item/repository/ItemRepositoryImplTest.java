@@ -0,0 +1,86 @@
+package ru.practicum.shareit.item.repository;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemRepositoryImplTest {
+    private final ItemRepositoryImpl repository = new ItemRepositoryImpl();
+
+    @Test
+    void saveIndexesItemByOwner() {
+        Item first = repository.save(item(1L));
+        Item second = repository.save(item(1L));
+        Item other = repository.save(item(2L));
+
+        assertThat(repository.findByOwnerId(1L, Integer.MAX_VALUE)).containsExactlyInAnyOrder(first, second);
+        assertThat(repository.findByOwnerId(2L, Integer.MAX_VALUE)).containsExactly(other);
+        assertThat(repository.findByOwnerId(3L, Integer.MAX_VALUE)).isEmpty();
+    }
+
+    @Test
+    void findByOwnerIdRespectsLimit() {
+        repository.save(item(1L));
+        repository.save(item(1L));
+        repository.save(item(1L));
+
+        assertThat(repository.findByOwnerId(1L, 2)).hasSize(2);
+    }
+
+    @Test
+    void updateMovesItemToNewOwner() {
+        Item saved = repository.save(item(1L));
+        Item moved = item(2L);
+        moved.setId(saved.getId());
+
+        repository.update(moved);
+
+        assertThat(repository.findByOwnerId(1L, Integer.MAX_VALUE)).isEmpty();
+        assertThat(repository.findByOwnerId(2L, Integer.MAX_VALUE)).containsExactly(moved);
+    }
+
+    @Test
+    void updateOfSameOwnerKeepsIndexEntry() {
+        Item saved = repository.save(item(1L));
+        saved.setName("Перфоратор");
+
+        repository.update(saved);
+
+        assertThat(repository.findByOwnerId(1L, Integer.MAX_VALUE)).containsExactly(saved);
+    }
+
+    @Test
+    void updateDoesNotReinsertDeletedItem() {
+        Item saved = repository.save(item(1L));
+        repository.delete(saved.getId());
+
+        assertThat(repository.update(saved)).isEmpty();
+        assertThat(repository.findById(saved.getId())).isEmpty();
+        assertThat(repository.findByOwnerId(1L, Integer.MAX_VALUE)).isEmpty();
+    }
+
+    @Test
+    void deleteRemovesIndexEntry() {
+        Item first = repository.save(item(1L));
+        Item second = repository.save(item(1L));
+
+        repository.delete(first.getId());
+        assertThat(repository.findByOwnerId(1L, Integer.MAX_VALUE)).containsExactly(second);
+
+        repository.delete(second.getId());
+        assertThat(repository.findByOwnerId(1L, Integer.MAX_VALUE)).isEmpty();
+    }
+
+    private static Item item(Long ownerId) {
+        User owner = new User();
+        owner.setId(ownerId);
+        Item item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Аккумуляторная дрель");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        return item;
+    }
+}
@@ -0,0 +1,287 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.item.dto.ItemChangeEvent;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+class ItemChangeFeedTest {
+
+    @Test
+    void subscriberAcceptsOnlyMatchingOwnerAndItems() {
+        ItemChangeFeed.Subscriber all = new ItemChangeFeed.Subscriber(new SseEmitter(), null, Set.of());
+        ItemChangeFeed.Subscriber byOwner = new ItemChangeFeed.Subscriber(new SseEmitter(), 7L, Set.of());
+        ItemChangeFeed.Subscriber byItems = new ItemChangeFeed.Subscriber(new SseEmitter(), null, Set.of(1L, 2L));
+        ItemChangeFeed.Subscriber byBoth = new ItemChangeFeed.Subscriber(new SseEmitter(), 7L, Set.of(1L));
+
+        assertThat(all.accepts(event(ItemChangeEvent.Type.CREATED, 3L, 8L))).isTrue();
+        assertThat(byOwner.accepts(event(ItemChangeEvent.Type.CREATED, 3L, 7L))).isTrue();
+        assertThat(byOwner.accepts(event(ItemChangeEvent.Type.CREATED, 3L, 8L))).isFalse();
+        assertThat(byItems.accepts(event(ItemChangeEvent.Type.UPDATED, 2L, 8L))).isTrue();
+        assertThat(byItems.accepts(event(ItemChangeEvent.Type.UPDATED, 3L, 8L))).isFalse();
+        assertThat(byBoth.accepts(event(ItemChangeEvent.Type.DELETED, 1L, 7L))).isTrue();
+        assertThat(byBoth.accepts(event(ItemChangeEvent.Type.DELETED, 1L, 8L))).isFalse();
+        assertThat(byBoth.accepts(event(ItemChangeEvent.Type.DELETED, 2L, 7L))).isFalse();
+    }
+
+    @Test
+    void subscriberCoalescesChangesOfSameItemInOrderOfLatestChange() {
+        ItemChangeFeed.Subscriber subscriber = new ItemChangeFeed.Subscriber(new SseEmitter(), null, Set.of());
+
+        assertThat(subscriber.offer(1, event(ItemChangeEvent.Type.CREATED, 1L, 7L), 10))
+                .isEqualTo(ItemChangeFeed.Offer.SCHEDULED);
+        assertThat(subscriber.offer(2, event(ItemChangeEvent.Type.CREATED, 2L, 7L), 10))
+                .isEqualTo(ItemChangeFeed.Offer.QUEUED);
+        assertThat(subscriber.offer(3, event(ItemChangeEvent.Type.UPDATED, 1L, 7L), 10))
+                .isEqualTo(ItemChangeFeed.Offer.QUEUED);
+
+        List<ItemChangeFeed.Pending> batch = subscriber.takePending();
+        assertThat(batch).extracting(ItemChangeFeed.Pending::id).containsExactly(2L, 3L);
+        assertThat(batch).extracting(pending -> pending.event().getType())
+                .containsExactly(ItemChangeEvent.Type.CREATED, ItemChangeEvent.Type.UPDATED);
+    }
+
+    @Test
+    void subscriberHandsDrainingBackWhenBufferIsEmpty() {
+        ItemChangeFeed.Subscriber subscriber = new ItemChangeFeed.Subscriber(new SseEmitter(), null, Set.of());
+
+        subscriber.offer(1, event(ItemChangeEvent.Type.CREATED, 1L, 7L), 10);
+        assertThat(subscriber.takePending()).hasSize(1);
+        assertThat(subscriber.offer(2, event(ItemChangeEvent.Type.UPDATED, 1L, 7L), 10))
+                .isEqualTo(ItemChangeFeed.Offer.QUEUED);
+        assertThat(subscriber.takePending()).hasSize(1);
+        assertThat(subscriber.takePending()).isEmpty();
+
+        assertThat(subscriber.offer(3, event(ItemChangeEvent.Type.UPDATED, 1L, 7L), 10))
+                .isEqualTo(ItemChangeFeed.Offer.SCHEDULED);
+    }
+
+    @Test
+    void subscriberOverflowsOnlyOnNewItemsBeyondCapacity() {
+        ItemChangeFeed.Subscriber subscriber = new ItemChangeFeed.Subscriber(new SseEmitter(), null, Set.of());
+
+        subscriber.offer(1, event(ItemChangeEvent.Type.CREATED, 1L, 7L), 2);
+        subscriber.offer(2, event(ItemChangeEvent.Type.CREATED, 2L, 7L), 2);
+
+        assertThat(subscriber.offer(3, event(ItemChangeEvent.Type.CREATED, 3L, 7L), 2))
+                .isEqualTo(ItemChangeFeed.Offer.OVERFLOW);
+        assertThat(subscriber.offer(4, event(ItemChangeEvent.Type.UPDATED, 1L, 7L), 2))
+                .isEqualTo(ItemChangeFeed.Offer.QUEUED);
+        assertThat(subscriber.takePending()).extracting(ItemChangeFeed.Pending::id).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void closedSubscriberDropsPendingAndIgnoresOffers() {
+        ItemChangeFeed.Subscriber subscriber = new ItemChangeFeed.Subscriber(new SseEmitter(), null, Set.of());
+        subscriber.offer(1, event(ItemChangeEvent.Type.CREATED, 1L, 7L), 10);
+
+        assertThat(subscriber.close()).isTrue();
+        assertThat(subscriber.close()).isFalse();
+        assertThat(subscriber.offer(2, event(ItemChangeEvent.Type.CREATED, 2L, 7L), 10))
+                .isEqualTo(ItemChangeFeed.Offer.QUEUED);
+        assertThat(subscriber.takePending()).isEmpty();
+    }
+
+    @Test
+    void publishSendsFilteredEventsWithSequenceIds() {
+        TestFeed feed = new TestFeed(10, directExecutor());
+        feed.subscribe(7L, null, null);
+        feed.subscribe(null, Set.of(2L), null);
+        RecordingEmitter byOwner = feed.emitters.get(0);
+        RecordingEmitter byItem = feed.emitters.get(1);
+
+        feed.publish(event(ItemChangeEvent.Type.CREATED, 1L, 7L));
+        feed.publish(event(ItemChangeEvent.Type.CREATED, 2L, 8L));
+        feed.publish(event(ItemChangeEvent.Type.UPDATED, 1L, 7L));
+
+        assertThat(byOwner.sent).extracting(Sent::id).containsExactly("1", "3");
+        assertThat(byOwner.sent).extracting(Sent::name).containsExactly("CREATED", "UPDATED");
+        assertThat(byItem.sent).extracting(Sent::id).containsExactly("2");
+        assertThat(((ItemChangeEvent) byItem.sent.get(0).data()).getItemId()).isEqualTo(2L);
+    }
+
+    @Test
+    void slowSubscriberReceivesLatestStatePerItem() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        TestFeed feed = new TestFeed(10, executor, true);
+        feed.subscribe(null, null, null);
+        RecordingEmitter emitter = feed.emitters.get(0);
+
+        feed.publish(event(ItemChangeEvent.Type.CREATED, 1L, 7L));
+        emitter.awaitBlocked();
+        feed.publish(event(ItemChangeEvent.Type.CREATED, 2L, 7L));
+        feed.publish(event(ItemChangeEvent.Type.UPDATED, 2L, 7L));
+        feed.publish(event(ItemChangeEvent.Type.CREATED, 3L, 7L));
+        emitter.release();
+        awaitTermination(executor);
+
+        assertThat(emitter.sent).extracting(Sent::id).containsExactly("1", "3", "4");
+        assertThat(emitter.sent).extracting(Sent::name).containsExactly("CREATED", "UPDATED", "CREATED");
+        assertThat(emitter.completed).isFalse();
+    }
+
+    @Test
+    void overflowedSubscriberGetsResyncAndIsCompleted() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        TestFeed feed = new TestFeed(1, executor, true);
+        feed.subscribe(null, null, null);
+        RecordingEmitter emitter = feed.emitters.get(0);
+
+        feed.publish(event(ItemChangeEvent.Type.CREATED, 1L, 7L));
+        emitter.awaitBlocked();
+        feed.publish(event(ItemChangeEvent.Type.CREATED, 2L, 7L));
+        feed.publish(event(ItemChangeEvent.Type.CREATED, 3L, 7L));
+        feed.publish(event(ItemChangeEvent.Type.CREATED, 4L, 7L));
+        emitter.release();
+        awaitTermination(executor);
+
+        assertThat(emitter.sent).extracting(Sent::name).containsExactly("CREATED", ItemChangeFeed.RESYNC);
+        assertThat(emitter.sent.get(1).id()).isEqualTo("4");
+        assertThat(emitter.completed).isTrue();
+    }
+
+    @Test
+    void resubscribeWithOutdatedLastEventIdGetsResync() {
+        TestFeed feed = new TestFeed(10, directExecutor());
+        feed.publish(event(ItemChangeEvent.Type.CREATED, 1L, 7L));
+        feed.publish(event(ItemChangeEvent.Type.UPDATED, 1L, 7L));
+
+        feed.subscribe(null, null, 1L);
+        feed.subscribe(null, null, 2L);
+        feed.subscribe(null, null, null);
+
+        assertThat(feed.emitters.get(0).sent).extracting(Sent::name).containsExactly(ItemChangeFeed.RESYNC);
+        assertThat(feed.emitters.get(0).sent.get(0).id()).isEqualTo("2");
+        assertThat(feed.emitters.get(0).completed).isFalse();
+        assertThat(feed.emitters.get(1).sent).isEmpty();
+        assertThat(feed.emitters.get(2).sent).isEmpty();
+    }
+
+    @Test
+    void resubscribeWithIdFromBeforeRestartGetsResync() {
+        TestFeed feed = new TestFeed(10, directExecutor());
+        feed.publish(event(ItemChangeEvent.Type.CREATED, 1L, 7L));
+
+        // the sequence started over, the client saw id 5 from the previous process
+        feed.subscribe(null, null, 5L);
+
+        assertThat(feed.emitters.get(0).sent).extracting(Sent::name).containsExactly(ItemChangeFeed.RESYNC);
+        assertThat(feed.emitters.get(0).sent.get(0).id()).isEqualTo("1");
+    }
+
+    @Test
+    void publishAfterShutdownIsDropped() {
+        TestFeed feed = new TestFeed(10, Executors.newSingleThreadExecutor());
+        feed.subscribe(null, null, null);
+
+        feed.shutdown();
+        feed.subscribe(null, null, null);
+
+        assertThatCode(() -> feed.publish(event(ItemChangeEvent.Type.CREATED, 1L, 7L))).doesNotThrowAnyException();
+        assertThat(feed.emitters).allMatch(emitter -> emitter.completed);
+        assertThat(feed.emitters).allMatch(emitter -> emitter.sent.isEmpty());
+    }
+
+    private static ItemChangeEvent event(ItemChangeEvent.Type type, Long itemId, Long ownerId) {
+        ItemDto item = type == ItemChangeEvent.Type.DELETED ? null : new ItemDto(itemId, "Дрель", "Дрель", true, null);
+        return new ItemChangeEvent(type, itemId, ownerId, item);
+    }
+
+    private static ExecutorService directExecutor() {
+        return new ExecutorServiceAdapter(new SyncTaskExecutor());
+    }
+
+    private static void awaitTermination(ExecutorService executor) throws InterruptedException {
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private record Sent(String id, String name, Object data) {
+    }
+
+    private static class TestFeed extends ItemChangeFeed {
+        private final List<RecordingEmitter> emitters = new ArrayList<>();
+        private final boolean slow;
+
+        TestFeed(int bufferSize, ExecutorService dispatcher) {
+            this(bufferSize, dispatcher, false);
+        }
+
+        TestFeed(int bufferSize, ExecutorService dispatcher, boolean slow) {
+            super(bufferSize, 60_000, dispatcher);
+            this.slow = slow;
+        }
+
+        @Override
+        SseEmitter createEmitter(long timeoutMillis) {
+            RecordingEmitter emitter = new RecordingEmitter(slow);
+            emitters.add(emitter);
+            return emitter;
+        }
+    }
+
+    // Records sent events; for a slow client the first send blocks until release().
+    private static class RecordingEmitter extends SseEmitter {
+        private static final Pattern FIELD = Pattern.compile("(id|event):(.*)\n");
+
+        private final List<Sent> sent = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final CountDownLatch released;
+        private volatile boolean completed;
+
+        RecordingEmitter(boolean slow) {
+            released = new CountDownLatch(slow ? 1 : 0);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            Object data = null;
+            for (DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String string) {
+                    text.append(string);
+                } else {
+                    data = part.getData();
+                }
+            }
+            Map<String, String> fields = new HashMap<>();
+            Matcher matcher = FIELD.matcher(text);
+            while (matcher.find()) {
+                fields.put(matcher.group(1), matcher.group(2));
+            }
+            blocked.countDown();
+            try {
+                released.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sent.add(new Sent(fields.get("id"), fields.get("event"), data));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        void awaitBlocked() throws InterruptedException {
+            assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        void release() {
+            released.countDown();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.exceptions.ItemNotFoundException;
+import ru.practicum.shareit.item.dto.ItemChangeEvent;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepositoryImpl;
+import ru.practicum.shareit.item.validation.ItemValidator;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepositoryImpl;
+import ru.practicum.shareit.user.repository.UserTombstones;
+import ru.practicum.shareit.user.validation.UserValidator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ItemServiceImplTest {
+    private final RecordingItemChangeFeed changeFeed = new RecordingItemChangeFeed();
+    private final UserTombstones tombstones = new UserTombstones();
+    private final UserRepositoryImpl userRepository = new UserRepositoryImpl();
+    private final ItemRepositoryImpl itemRepository = new ItemRepositoryImpl();
+    private final UserValidator userValidator = new UserValidator(userRepository);
+
+    private final ItemValidator itemValidator = new ItemValidator(itemRepository, tombstones);
+    private final ItemServiceImpl itemService = new ItemServiceImpl(itemRepository, userValidator, itemValidator, changeFeed);
+
+    private Long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = user("owner@mail.ru");
+    }
+
+    @Test
+    void itemsOfDeletedOwnerAreHiddenImmediately() {
+        Long otherId = user("other@mail.ru");
+        ItemDto item = item(ownerId);
+        ItemDto otherItem = item(otherId);
+
+        tombstones.add(ownerId);
+
+        assertThat(itemService.getById(item.getId(), otherId)).isEmpty();
+        assertThat(itemService.getAllByUser(ownerId)).isEmpty();
+        assertThat(itemService.search("дрель")).containsExactly(otherItem);
+        assertThatThrownBy(() -> itemValidator.validateItemExists(item.getId()))
+                .isInstanceOf(ItemNotFoundException.class);
+        assertThat(itemService.getById(otherItem.getId(), otherId)).contains(otherItem);
+    }
+
+    @Test
+    void createRacingWithOwnerDeletionDoesNotLeaveVisibleItem() {
+        // the tombstone is written before the user is removed from storage
+        tombstones.add(ownerId);
+
+        assertThatThrownBy(() -> item(ownerId)).isInstanceOf(ResponseStatusException.class);
+        assertThat(itemRepository.findAll()).isEmpty();
+        assertThat(changeFeed.getPublished()).isEmpty();
+    }
+
+    @Test
+    void updateOfConcurrentlyDeletedItemFailsAndPublishesNothing() {
+        ItemDto item = item(ownerId);
+        // the item is deleted right after update has validated it
+        ItemValidator racingValidator = new ItemValidator(itemRepository, tombstones) {
+            @Override
+            public Item validateItemExists(Long itemId) {
+                Item existing = super.validateItemExists(itemId);
+                itemRepository.delete(itemId);
+                return existing;
+            }
+        };
+        ItemServiceImpl racingService = new ItemServiceImpl(itemRepository, userValidator, racingValidator, changeFeed);
+        changeFeed.clear();
+
+        ItemDto patch = new ItemDto(null, null, null, false, null);
+        assertThatThrownBy(() -> racingService.update(item.getId(), patch, ownerId))
+                .isInstanceOf(ItemNotFoundException.class);
+
+        assertThat(itemRepository.findById(item.getId())).isEmpty();
+        assertThat(itemRepository.findByOwnerId(ownerId, Integer.MAX_VALUE)).isEmpty();
+        assertThat(changeFeed.getPublished()).isEmpty();
+    }
+
+    @Test
+    void deletePublishesDeletedOnce() {
+        ItemDto item = item(ownerId);
+        changeFeed.clear();
+
+        itemService.delete(item.getId(), ownerId);
+
+        assertThatThrownBy(() -> itemService.delete(item.getId(), ownerId))
+                .isInstanceOf(ItemNotFoundException.class);
+        assertThat(changeFeed.getPublished()).extracting(ItemChangeEvent::getType)
+                .containsExactly(ItemChangeEvent.Type.DELETED);
+    }
+
+    @Test
+    void concurrentUpdatesPublishInWriteOrder() throws Exception {
+        AtomicInteger stale = new AtomicInteger();
+        // widens the window between a write and its event and checks the event against the stored item
+        RecordingItemChangeFeed checkingFeed = new RecordingItemChangeFeed() {
+            @Override
+            public void publish(ItemChangeEvent event) {
+                LockSupport.parkNanos(20_000);
+                Item stored = itemRepository.findById(event.getItemId()).orElseThrow();
+                if (!stored.getAvailable().equals(event.getItem().getAvailable())) {
+                    stale.incrementAndGet();
+                }
+                super.publish(event);
+            }
+        };
+        ItemServiceImpl service = new ItemServiceImpl(itemRepository, userValidator,
+                new ItemValidator(itemRepository, tombstones), checkingFeed);
+        ItemDto item = service.create(new ItemDto(null, "Дрель", "Аккумуляторная дрель", true, null), ownerId);
+        int threads = 4;
+        int updatesPerThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            boolean available = t % 2 == 0;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < updatesPerThread; i++) {
+                    service.update(item.getId(), new ItemDto(null, null, null, available, null), ownerId);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        List<ItemChangeEvent> published = checkingFeed.getPublished();
+        ItemChangeEvent last = published.get(published.size() - 1);
+        assertThat(stale.get()).isZero();
+        assertThat(published).hasSize(1 + threads * updatesPerThread);
+        assertThat(last.getItem().getAvailable())
+                .isEqualTo(itemRepository.findById(item.getId()).orElseThrow().getAvailable());
+    }
+
+    private Long user(String email) {
+        User user = new User();
+        user.setName("Пользователь");
+        user.setEmail(email);
+        return userRepository.save(user).getId();
+    }
+
+    private ItemDto item(Long userId) {
+        return itemService.create(new ItemDto(null, "Дрель", "Аккумуляторная дрель", true, null), userId);
+    }
+}
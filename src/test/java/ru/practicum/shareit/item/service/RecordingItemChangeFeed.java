@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import ru.practicum.shareit.item.dto.ItemChangeEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Feed for service tests: records published events in publish order instead of sending them.
+public class RecordingItemChangeFeed extends ItemChangeFeed {
+    private final List<ItemChangeEvent> published = Collections.synchronizedList(new ArrayList<>());
+
+    public RecordingItemChangeFeed() {
+        super(16, 60_000, new ExecutorServiceAdapter(new SyncTaskExecutor()));
+    }
+
+    @Override
+    public void publish(ItemChangeEvent event) {
+        published.add(event);
+    }
+
+    public List<ItemChangeEvent> getPublished() {
+        synchronized (published) {
+            return List.copyOf(published);
+        }
+    }
+
+    public void clear() {
+        published.clear();
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exceptions.ItemNotFoundException;
+import ru.practicum.shareit.item.dto.ItemChangeEvent;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepositoryImpl;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.service.RecordingItemChangeFeed;
+import ru.practicum.shareit.item.validation.ItemValidator;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepositoryImpl;
+import ru.practicum.shareit.user.repository.UserTombstones;
+import ru.practicum.shareit.user.validation.UserValidator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserCompactorTest {
+    private final RecordingItemChangeFeed changeFeed = new RecordingItemChangeFeed();
+    private final UserTombstones tombstones = new UserTombstones();
+    private final ItemRepositoryImpl itemRepository = new ItemRepositoryImpl();
+    private final UserCompactor compactor = new UserCompactor(tombstones, itemRepository, changeFeed, 2);
+
+    private UserValidator userValidator;
+    private UserServiceImpl userService;
+    private ItemServiceImpl itemService;
+
+    @BeforeEach
+    void setUp() {
+        UserRepositoryImpl userRepository = new UserRepositoryImpl();
+        userValidator = new UserValidator(userRepository);
+        userService = new UserServiceImpl(userRepository, userValidator, tombstones);
+        itemService = new ItemServiceImpl(itemRepository, userValidator,
+                new ItemValidator(itemRepository, tombstones), changeFeed);
+    }
+
+    @Test
+    void compactRemovesAtMostBatchSizeItemsPerTick() {
+        Long ownerId = user("owner@mail.ru");
+        item(ownerId);
+        item(ownerId);
+        item(ownerId);
+        changeFeed.clear();
+        userService.delete(ownerId);
+
+        compactor.compact();
+
+        assertThat(itemRepository.findAll()).hasSize(1);
+        assertThat(changeFeed.getPublished()).hasSize(2)
+                .allMatch(event -> event.getType() == ItemChangeEvent.Type.DELETED && ownerId.equals(event.getOwnerId()));
+        assertThat(tombstones.findUncompacted()).containsExactly(ownerId);
+
+        compactor.compact();
+
+        assertThat(itemRepository.findAll()).isEmpty();
+        assertThat(changeFeed.getPublished()).hasSize(3);
+        assertThat(tombstones.findUncompacted()).isEmpty();
+        assertThat(tombstones.contains(ownerId)).isTrue();
+    }
+
+    @Test
+    void compactSharesBudgetBetweenDeletedUsers() {
+        Long firstId = user("first@mail.ru");
+        Long secondId = user("second@mail.ru");
+        item(firstId);
+        item(secondId);
+        item(secondId);
+        userService.delete(firstId);
+        userService.delete(secondId);
+
+        compactor.compact();
+
+        assertThat(itemRepository.findAll()).hasSize(1);
+        compactor.compact();
+        assertThat(itemRepository.findAll()).isEmpty();
+        assertThat(tombstones.findUncompacted()).isEmpty();
+    }
+
+    @Test
+    void compactKeepsUserWithoutItemsOnlyUntilFirstTick() {
+        Long ownerId = user("owner@mail.ru");
+        userService.delete(ownerId);
+
+        compactor.compact();
+
+        assertThat(tombstones.findUncompacted()).isEmpty();
+        assertThat(changeFeed.getPublished()).isEmpty();
+    }
+
+    @Test
+    void updateRacingWithCompactionDoesNotReinsertItem() {
+        Long ownerId = user("owner@mail.ru");
+        ItemDto item = item(ownerId);
+        // the owner is deleted and compacted right after update has validated the item
+        ItemValidator racingValidator = new ItemValidator(itemRepository, tombstones) {
+            @Override
+            public Item validateItemExists(Long itemId) {
+                Item existing = super.validateItemExists(itemId);
+                userService.delete(ownerId);
+                compactor.compact();
+                return existing;
+            }
+        };
+        ItemServiceImpl racingService = new ItemServiceImpl(itemRepository, userValidator, racingValidator, changeFeed);
+
+        ItemDto patch = new ItemDto(null, null, null, false, null);
+        assertThatThrownBy(() -> racingService.update(item.getId(), patch, ownerId))
+                .isInstanceOf(ItemNotFoundException.class);
+
+        assertThat(itemRepository.findAll()).isEmpty();
+        assertThat(itemRepository.findByOwnerId(ownerId, Integer.MAX_VALUE)).isEmpty();
+        assertThat(changeFeed.getPublished()).extracting(ItemChangeEvent::getType)
+                .containsExactly(ItemChangeEvent.Type.CREATED, ItemChangeEvent.Type.DELETED);
+    }
+
+    private Long user(String email) {
+        return userService.create(new UserDto(null, "Пользователь", email)).getId();
+    }
+
+    private ItemDto item(Long ownerId) {
+        return itemService.create(new ItemDto(null, "Дрель", "Аккумуляторная дрель", true, null), ownerId);
+    }
+}